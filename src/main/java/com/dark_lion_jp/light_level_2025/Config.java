@@ -63,6 +63,7 @@ public class Config {
     public scale scale = new scale();
     public float offset_y_base = 0.1f;
     public boolean hide_safe = false;
+    public int max_count = 1024;
 
     public static class color {
 
@@ -82,6 +83,11 @@ public class Config {
   public static class cache {
 
     public int update_interval_frames = 20;
+    public boolean warm_in_background = false;
+    public int warm_interval_frames = 100;
+    public int prefetch_ticks = 20;
+    public int prefetch_max_blocks = 8;
+    public float prefetch_min_speed = 0.25f;
   }
 
   public static class Hex {
@@ -1,8 +1,10 @@
 package com.dark_lion_jp.light_level_2025;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
@@ -13,6 +15,7 @@ import net.minecraft.client.render.Frustum;
 import net.minecraft.client.render.LightmapTextureManager;
 import net.minecraft.client.render.VertexConsumerProvider;
 import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.util.hit.BlockHitResult;
 import net.minecraft.util.Identifier;
@@ -30,8 +33,52 @@ public class LLWorldRenderer {
 
   private static Config config;
 
+  /**
+   * Orders block priorities from most to least important: blocks in range before prefetched ones,
+   * then by spawn risk, then by distance to the camera.
+   */
+  private static final Comparator<BlockPriority> BLOCK_PRIORITY = Comparator
+      .comparing(BlockPriority::prefetched)
+      .thenComparing(BlockPriority::spawnRisk)
+      .thenComparingDouble(BlockPriority::squaredDistanceToCamera);
+
   private static final List<BlockCached> blocksCached = new ArrayList<>();
+  // Bounded selection used during a scan; its head is the least important block kept so far.
+  private static final PriorityQueue<BlockCached> blocksSelected = new PriorityQueue<>(
+      Comparator.comparing((BlockCached block) -> block.priority, BLOCK_PRIORITY).reversed());
   private static int frameCounter = 0;
+  // Frames since the last warm scan started while the overlay is hidden.
+  private static int warmFrameCounter = 0;
+
+  // State of the scan in progress; scanPlayerPosition is null when no scan is in progress.
+  private static BlockPos scanPlayerPosition = null;
+  private static BlockPos scanPrefetchOffset = BlockPos.ORIGIN;
+  private static int scanFirstDx;
+  private static int scanLastDx;
+  private static int scanNextDx;
+
+  /**
+   * Represents how likely hostile mobs are to spawn at a position, ordered from most to least
+   * important to show.
+   */
+  private enum SpawnRisk {
+    DANGER,
+    WARNING,
+    SAFE,
+    NEUTRAL
+  }
+
+  /**
+   * Represents the keys used to decide which blocks are kept when the label budget is exceeded.
+   *
+   * @param prefetched              True if the block is only in the prefetched range.
+   * @param spawnRisk               The spawn risk at the block.
+   * @param squaredDistanceToCamera The squared distance from the camera to the block.
+   */
+  private record BlockPriority(boolean prefetched, SpawnRisk spawnRisk,
+                               double squaredDistanceToCamera) {
+
+  }
 
   /**
    * Represents a cached block with its light level text properties.
@@ -43,14 +90,16 @@ public class LLWorldRenderer {
     public final float textScale;
     public final int textColor;
     public final float textOffsetY;
+    public final BlockPriority priority;
 
     public BlockCached(BlockPos position, String text, float textScale, int textColor,
-        float textYOffset) {
+        float textYOffset, BlockPriority priority) {
       this.position = position.toImmutable();
       this.text = text;
       this.textScale = textScale;
       this.textColor = textColor;
       this.textOffsetY = textYOffset;
+      this.priority = priority;
     }
   }
 
@@ -113,44 +162,66 @@ public class LLWorldRenderer {
   }
 
   /**
-   * Determines the color of the light level text based on block and sky light levels, considering
-   * the current dimension.
+   * Determines the spawn risk based on block and sky light levels, considering the current
+   * dimension.
    *
    * @param world           The current game world.
    * @param blockLightLevel The block light level at the position.
    * @param skyLightLevel   The sky light level at the position.
-   * @return The color code for the text in AARRGGBB format.
+   * @return The spawn risk at the position.
    */
-  private static int getTextColor(World world, int blockLightLevel, int skyLightLevel) {
-    Config.Hex textColorHex;
+  private static SpawnRisk getSpawnRisk(World world, int blockLightLevel, int skyLightLevel) {
     Identifier currentDimension = world.getRegistryKey().getValue();
     if (currentDimension.equals(World.OVERWORLD.getValue())) {
       if (blockLightLevel > 0) {
-        textColorHex = config.text.color.safe;
+        return SpawnRisk.SAFE;
       } else if (skyLightLevel > 7) {
-        textColorHex = config.text.color.warning;
+        return SpawnRisk.WARNING;
       } else {
-        textColorHex = config.text.color.danger;
+        return SpawnRisk.DANGER;
       }
     } else if (currentDimension.equals(World.NETHER.getValue())) {
-      if (blockLightLevel > 11) {
-        textColorHex = config.text.color.safe;
-      } else {
-        textColorHex = config.text.color.danger;
-      }
+      return blockLightLevel > 11 ? SpawnRisk.SAFE : SpawnRisk.DANGER;
     } else if (currentDimension.equals(World.END.getValue())) {
-      if (blockLightLevel > 0) {
-        textColorHex = config.text.color.safe;
-      } else {
-        textColorHex = config.text.color.danger;
-      }
+      return blockLightLevel > 0 ? SpawnRisk.SAFE : SpawnRisk.DANGER;
     } else {
-      textColorHex = config.text.color.neutral;
+      return SpawnRisk.NEUTRAL;
     }
+  }
+
+  /**
+   * Determines the color of the light level text for a spawn risk.
+   *
+   * @param spawnRisk The spawn risk at the position.
+   * @return The color code for the text in AARRGGBB format.
+   */
+  private static int getTextColor(SpawnRisk spawnRisk) {
+    Config.Hex textColorHex = switch (spawnRisk) {
+      case DANGER -> config.text.color.danger;
+      case WARNING -> config.text.color.warning;
+      case SAFE -> config.text.color.safe;
+      case NEUTRAL -> config.text.color.neutral;
+    };
 
     return textColorHex.value;
   }
 
+  /**
+   * Checks if a candidate block would be dropped from a full selection because every block already
+   * selected is at least as important.
+   *
+   * @param priority The priority of the candidate block.
+   * @return True if the selection is full and the candidate would not make it in, false otherwise.
+   */
+  private static boolean isOutranked(BlockPriority priority) {
+    int maxCount = config.text.max_count;
+    if (maxCount <= 0 || blocksSelected.size() < maxCount) {
+      return false;
+    }
+
+    return BLOCK_PRIORITY.compare(priority, blocksSelected.peek().priority) >= 0;
+  }
+
   /**
    * Calculates the necessary Y offset for the text to prevent it from visually overlapping with the
    * block it's drawn above.
@@ -213,12 +284,15 @@ public class LLWorldRenderer {
   }
 
   /**
-   * Renders the light levels around the player. This is the main rendering entry point.
+   * Renders the light levels around the player. This is the main rendering entry point. While the
+   * overlay is hidden, the cache is optionally kept warm by a scan spread over several frames so
+   * that it can be shown without waiting for a scan.
    *
    * @param worldRenderContext The world render context provided by Fabric.
    */
   public static void render(WorldRenderContext worldRenderContext) {
-    if (!LightLevel2025.isEnabled()) {
+    config = LightLevel2025.getConfig();
+    if (!LightLevel2025.isEnabled() && !config.cache.warm_in_background) {
       return;
     }
 
@@ -228,12 +302,17 @@ public class LLWorldRenderer {
       return;
     }
 
+    if (!LightLevel2025.isEnabled()) {
+      warmRenderTargets(client, Optional.ofNullable(worldRenderContext.frustum()),
+          worldRenderContext.camera().getPos());
+      return;
+    }
+
     MatrixStack matrices = worldRenderContext.matrixStack();
     if (matrices == null) {
       return;
     }
 
-    config = LightLevel2025.getConfig();
     World world = client.world;
     Optional<Frustum> frustum = Optional.ofNullable(worldRenderContext.frustum());
     TextRenderer gameTextRenderer = client.textRenderer;
@@ -258,8 +337,11 @@ public class LLWorldRenderer {
     VertexConsumerProvider.Immediate bufferSource = client.getBufferBuilders()
         .getEntityVertexConsumers();
     Quaternionf cameraRotation = new Quaternionf(camera.getRotation());
-    // Draw all cached light level texts.
+    // Draw all cached light level texts, holding back prefetched ones until they come into range.
     for (BlockCached target : blocksCached) {
+      if (target.priority.prefetched() && !isInRenderRange(target.position, playerPosition)) {
+        continue;
+      }
       drawLightLevelText(
           matrices,
           gameTextRenderer,
@@ -276,6 +358,95 @@ public class LLWorldRenderer {
     matrices.pop();
   }
 
+  /**
+   * Keeps the cached render targets fresh while the overlay is hidden. A scan starts every
+   * configured warm interval, and each frame scans a slice of at least one X-axis column so that
+   * the scan is spread over up to the same interval. The result replaces the cache once the scan
+   * completes. Frustum culling uses the camera at the time each
+   * slice is scanned, so blocks that come into view after the camera turns are only shown after
+   * the next update.
+   *
+   * @param client         The Minecraft client instance.
+   * @param frustum        The camera frustum for visibility checks.
+   * @param cameraPosition The current position of the camera.
+   */
+  private static void warmRenderTargets(MinecraftClient client, Optional<Frustum> frustum,
+      Vec3d cameraPosition) {
+    int intervalFrames = Math.max(1, config.cache.warm_interval_frames);
+    warmFrameCounter++;
+    if (scanPlayerPosition == null) {
+      if (warmFrameCounter < intervalFrames) {
+        return;
+      }
+      beginScan(client.player, client.player.getBlockPos());
+      warmFrameCounter = 0;
+    }
+
+    int columnCount = scanLastDx - scanFirstDx + 1;
+    int columnCountPerFrame = (columnCount + intervalFrames - 1) / intervalFrames;
+    boolean shouldShowBothValues = client.getDebugHud().shouldShowDebugHud();
+    scanColumns(client.world, client.player, frustum, client.textRenderer, cameraPosition,
+        shouldShowBothValues, columnCountPerFrame);
+
+    if (scanNextDx > scanLastDx) {
+      finishScan();
+      // The cache is fresh, so do not scan again on the first frame after the overlay is shown.
+      frameCounter = 0;
+    }
+  }
+
+  /**
+   * Checks if a position is inside the spherical rendering range around a center position.
+   *
+   * @param position The block position to check.
+   * @param center   The block position at the center of the range.
+   * @return True if the position is inside the rendering range, false otherwise.
+   */
+  private static boolean isInRenderRange(BlockPos position, BlockPos center) {
+    int renderRangeHorizontal = config.render_distance.horizontal;
+    // Max squared distance to limit the range to a sphere, slightly extended to cover corners.
+    double maxSquaredDistance = renderRangeHorizontal * renderRangeHorizontal * 1.5;
+    return Math.abs(position.getY() - center.getY()) <= config.render_distance.vertical
+        && position.getSquaredDistance(center) <= maxSquaredDistance;
+  }
+
+  /**
+   * Predicts the offset of the player after a fixed lookahead of {@code cache.prefetch_ticks}
+   * ticks by extrapolating the distance moved during the last tick by the player, or by the entity
+   * the player is riding. The offset is capped at {@code cache.prefetch_max_blocks}, and is zero
+   * below {@code cache.prefetch_min_speed}. Vertical movement is only taken into account while
+   * flying or riding an entity that is off the ground, since walking and jumping would otherwise
+   * tip the prediction up or down.
+   *
+   * @param player The player entity.
+   * @return The predicted offset in blocks from the player's current position.
+   */
+  private static BlockPos getPrefetchOffset(PlayerEntity player) {
+    int maxBlocks = config.cache.prefetch_max_blocks;
+    if (maxBlocks <= 0) {
+      return BlockPos.ORIGIN;
+    }
+
+    // Measure the actual movement, since the stored velocity already has friction applied.
+    Entity vehicle = player.getRootVehicle();
+    Vec3d movement = new Vec3d(vehicle.getX(), vehicle.getY(), vehicle.getZ())
+        .subtract(vehicle.getLerpedPos(0f));
+    boolean isFlying = player.isGliding() || player.getAbilities().flying
+        || (vehicle != player && !vehicle.isOnGround());
+    if (!isFlying) {
+      movement = new Vec3d(movement.x, 0, movement.z);
+    }
+    if (movement.length() < config.cache.prefetch_min_speed) {
+      return BlockPos.ORIGIN;
+    }
+
+    Vec3d offset = movement.multiply(config.cache.prefetch_ticks);
+    if (offset.length() > maxBlocks) {
+      offset = offset.normalize().multiply(maxBlocks);
+    }
+    return BlockPos.ofFloored(offset.x + 0.5, offset.y + 0.5, offset.z + 0.5);
+  }
+
   /**
    * Checks if the light level information should be rendered at a given position. This involves
    * checks for block properties, frustum visibility, and line-of-sight.
@@ -371,7 +542,10 @@ public class LLWorldRenderer {
 
   /**
    * Updates the list of blocks where light level text should be rendered. This involves iterating
-   * through blocks around the player and applying rendering criteria.
+   * through blocks around the player and applying rendering criteria. The range is extended towards
+   * where the player is moving, so that labels are ready before those blocks come into range. At
+   * most {@code text.max_count} blocks are kept, preferring blocks in range, then higher spawn risk,
+   * then proximity to the camera.
    *
    * @param world                The current game world.
    * @param player               The player entity.
@@ -386,23 +560,77 @@ public class LLWorldRenderer {
       Optional<Frustum> frustum,
       TextRenderer textRenderer, BlockPos playerPosition, Vec3d cameraPosition,
       boolean shouldShowBothValues) {
+    beginScan(player, playerPosition);
+    scanColumns(world, player, frustum, textRenderer, cameraPosition, shouldShowBothValues,
+        scanLastDx - scanFirstDx + 1);
+    finishScan();
+  }
+
+  /**
+   * Starts a new scan around the player, discarding any scan in progress.
+   *
+   * @param player         The player entity.
+   * @param playerPosition The current block position of the player.
+   */
+  private static void beginScan(PlayerEntity player, BlockPos playerPosition) {
+    blocksSelected.clear();
+
+    // The same range around the predicted position is prefetched at a lower priority.
+    scanPlayerPosition = playerPosition.toImmutable();
+    scanPrefetchOffset = getPrefetchOffset(player);
+    scanFirstDx = Math.min(0, scanPrefetchOffset.getX()) - config.render_distance.horizontal;
+    scanLastDx = Math.max(0, scanPrefetchOffset.getX()) + config.render_distance.horizontal;
+    scanNextDx = scanFirstDx;
+  }
+
+  /**
+   * Replaces the cached blocks with the blocks selected by the scan in progress and ends the scan.
+   */
+  private static void finishScan() {
+    // Store the selected blocks in the cached list for rendering.
     blocksCached.clear();
+    blocksCached.addAll(blocksSelected);
+    blocksSelected.clear();
+    scanPlayerPosition = null;
+  }
 
+  /**
+   * Scans the next X-axis columns of the scan in progress, adding the blocks that pass the
+   * rendering criteria to the selection.
+   *
+   * @param world                The current game world.
+   * @param player               The player entity.
+   * @param frustum              The camera frustum for visibility checks.
+   * @param textRenderer         The text renderer instance.
+   * @param cameraPosition       The current position of the camera.
+   * @param shouldShowBothValues True if both block and sky light levels should be displayed (debug
+   *                             mode), false otherwise.
+   * @param columnCount          The maximum number of X-axis columns to scan.
+   */
+  private static void scanColumns(World world, PlayerEntity player, Optional<Frustum> frustum,
+      TextRenderer textRenderer, Vec3d cameraPosition, boolean shouldShowBothValues,
+      int columnCount) {
     BlockPos.Mutable positionToRenderAt = new BlockPos.Mutable();
+    BlockPos playerPosition = scanPlayerPosition;
+    BlockPos prefetchOffset = scanPrefetchOffset;
+    BlockPos prefetchPosition = playerPosition.add(prefetchOffset);
     int renderRangeHorizontal = config.render_distance.horizontal;
     int renderRangeVertical = config.render_distance.vertical;
-    // Max squared distance to limit block iteration to a sphere, slightly extended to cover corners.
-    double maxSquaredDistance = renderRangeHorizontal * renderRangeHorizontal * 1.5;
 
-    // Iterate through blocks within the defined rendering range.
-    for (int dx = -renderRangeHorizontal; dx <= renderRangeHorizontal; dx++) {
-      for (int dz = -renderRangeHorizontal; dz <= renderRangeHorizontal; dz++) {
-        for (int dy = -renderRangeVertical; dy <= renderRangeVertical; dy++) {
+    // Iterate through blocks within the defined rendering range and the prefetched range.
+    int lastDx = Math.min(scanLastDx, scanNextDx + columnCount - 1);
+    for (int dx = scanNextDx; dx <= lastDx; dx++) {
+      for (int dz = Math.min(0, prefetchOffset.getZ()) - renderRangeHorizontal;
+          dz <= Math.max(0, prefetchOffset.getZ()) + renderRangeHorizontal; dz++) {
+        for (int dy = Math.min(0, prefetchOffset.getY()) - renderRangeVertical;
+            dy <= Math.max(0, prefetchOffset.getY()) + renderRangeVertical; dy++) {
           positionToRenderAt.set(playerPosition.getX() + dx, playerPosition.getY() + dy,
               playerPosition.getZ() + dz);
 
-          // Skip blocks outside the spherical rendering range.
-          if (positionToRenderAt.getSquaredDistance(playerPosition) > maxSquaredDistance) {
+          // Skip blocks outside both the spherical rendering range and the prefetched range.
+          boolean inRange = isInRenderRange(positionToRenderAt, playerPosition);
+          boolean prefetched = !inRange && isInRenderRange(positionToRenderAt, prefetchPosition);
+          if (!inRange && !prefetched) {
             continue;
           }
 
@@ -412,6 +640,22 @@ public class LLWorldRenderer {
             continue;
           }
 
+          // Get sky light level and determine the spawn risk.
+          int skyLightLevel = world.getLightLevel(LightType.SKY, positionToRenderAt);
+          SpawnRisk spawnRisk = getSpawnRisk(world, blockLightLevel, skyLightLevel);
+
+          // Skip the remaining checks if the block could not displace any selected block.
+          double distanceX = positionToRenderAt.getX() + 0.5 - cameraPosition.x;
+          double distanceY = positionToRenderAt.getY() + 0.5 - cameraPosition.y;
+          double distanceZ = positionToRenderAt.getZ() + 0.5 - cameraPosition.z;
+          double squaredDistanceToCamera =
+              distanceX * distanceX + distanceY * distanceY + distanceZ * distanceZ;
+          BlockPriority priority = new BlockPriority(prefetched, spawnRisk,
+              squaredDistanceToCamera);
+          if (isOutranked(priority)) {
+            continue;
+          }
+
           BlockState blockStateRenderAt = world.getBlockState(positionToRenderAt);
           // Check if the light level should be rendered at this position based on various criteria.
           if (!shouldRenderLightLevel(world, player, frustum, cameraPosition, positionToRenderAt,
@@ -419,9 +663,7 @@ public class LLWorldRenderer {
             continue;
           }
 
-          // Get sky light level and determine text color.
-          int skyLightLevel = world.getLightLevel(LightType.SKY, positionToRenderAt);
-          int textColor = getTextColor(world, blockLightLevel, skyLightLevel);
+          int textColor = getTextColor(spawnRisk);
 
           // Get the bounding box of the block at the render position for text offset calculation.
           VoxelShape blockVisualShapeRenderAt = blockStateRenderAt.getOutlineShape(world,
@@ -448,12 +690,16 @@ public class LLWorldRenderer {
               textWidthScaled,
               textHeightScaled);
 
-          // Add the block to the cached list for rendering.
-          blocksCached.add(
+          // Add the block to the selection, dropping the least important one if it overflows.
+          blocksSelected.add(
               new BlockCached(positionToRenderAt.toImmutable(), textToRender, textScale, textColor,
-                  textOffsetY));
+                  textOffsetY, priority));
+          if (config.text.max_count > 0 && blocksSelected.size() > config.text.max_count) {
+            blocksSelected.poll();
+          }
         }
       }
     }
+    scanNextDx = lastDx + 1;
   }
 }
\ No newline at end of file